@@ -0,0 +1,133 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * AIMD concurrency limit driven by windowed latency. Completed requests are
+ * sampled into a fixed-size window; when it fills, the window's p90 is
+ * compared with the baseline (the lowest p90 seen, drifting slowly upwards).
+ * Above {@code baseline * tolerance} the limit shrinks multiplicatively,
+ * otherwise it grows by one if the window actually used the limit.
+ * A single slow request therefore can't trigger a backoff on its own.
+ * Requests above the limit are rejected.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double PERCENTILE = 0.9;
+    private static final int BASELINE_DRIFT_SHIFT = 4;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong baselineNanos = new AtomicLong();
+
+    private final AtomicLongArray window;
+    private final AtomicInteger windowIndex = new AtomicInteger();
+    private final AtomicInteger windowWritten = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private volatile long lastWindowP90Nanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, int windowSize) {
+        if (minLimit < 1 || minLimit > maxLimit || tolerance <= 1.0 || windowSize < 2) {
+            throw new IllegalArgumentException(
+                    "Require 1 <= minLimit <= maxLimit, tolerance > 1 and windowSize >= 2");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.window = new AtomicLongArray(windowSize);
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        windowMaxInFlight.accumulateAndGet(inFlightAtRelease, Math::max);
+
+        int slot = windowIndex.getAndIncrement();
+        if (slot >= window.length()) {
+            // The window is being evaluated by another thread; drop this sample.
+            return;
+        }
+        window.set(slot, latencyNanos);
+        // Close on the last completed write, not the last claimed slot, so every
+        // sample of this window is visible before it is evaluated.
+        if (windowWritten.incrementAndGet() == window.length()) {
+            closeWindow();
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getBaselineNanos() {
+        return baselineNanos.get();
+    }
+
+    public long getLastWindowP90Nanos() {
+        return lastWindowP90Nanos;
+    }
+
+    /** Called by exactly one thread: the one whose write completed the window. */
+    private void closeWindow() {
+        long[] samples = new long[window.length()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = window.get(i);
+        }
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        windowWritten.set(0);
+        // Reopening the slots last means no sample can land in the new window
+        // until the old one has been copied.
+        windowIndex.set(0);
+
+        Arrays.sort(samples);
+        long p90 = samples[Math.min(samples.length - 1, (int) Math.ceil(samples.length * PERCENTILE) - 1)];
+        lastWindowP90Nanos = p90;
+        long baseline = updateBaseline(p90);
+
+        int current = limit.get();
+        if (p90 > baseline * tolerance) {
+            limit.set(Math.max(minLimit, (int) (current * BACKOFF_RATIO)));
+        } else if (maxInFlight * 2 >= current) {
+            limit.set(Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Tracks the lowest window p90, drifting towards newer windows so a
+     * permanently slower backend does not pin the limit at its floor.
+     */
+    private long updateBaseline(long windowP90) {
+        long baseline = baselineNanos.get();
+        long next;
+        if (baseline == 0 || windowP90 < baseline) {
+            next = windowP90;
+        } else {
+            next = baseline + ((windowP90 - baseline) >> BASELINE_DRIFT_SHIFT);
+        }
+        baselineNanos.set(next);
+        return next;
+    }
+}
@@ -0,0 +1,121 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Single entry point for admission decisions on expensive routes: per-IP and
+ * per-username token buckets followed by an adaptive concurrency limit.
+ * Each route gets its own limiter, since a BCrypt login and a checkout have
+ * very different normal latencies.
+ */
+@Component
+public class AdmissionControl {
+
+    public record Decision(boolean admitted, String reason, long retryAfterSeconds) {
+
+        static final Decision ADMITTED = new Decision(true, null, 0);
+
+        static Decision rejected(String reason, long retryAfterNanos) {
+            long seconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+            return new Decision(false, reason, seconds);
+        }
+    }
+
+    private final TokenBucketRegistry ipBuckets;
+    private final TokenBucketRegistry userBuckets;
+    private final Map<String, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+    private final Function<String, AdaptiveConcurrencyLimiter> limiterFactory;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByUser = new LongAdder();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+
+    public AdmissionControl(
+            @Value("${admission.ip.capacity:20}") int ipCapacity,
+            @Value("${admission.ip.refill-per-second:2}") double ipRefillPerSecond,
+            @Value("${admission.user.capacity:5}") int userCapacity,
+            @Value("${admission.user.refill-per-second:0.2}") double userRefillPerSecond,
+            @Value("${admission.max-tracked-clients:10000}") int maxTrackedClients,
+            @Value("${admission.concurrency.initial-limit:16}") int initialLimit,
+            @Value("${admission.concurrency.min-limit:2}") int minLimit,
+            @Value("${admission.concurrency.max-limit:64}") int maxLimit,
+            @Value("${admission.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${admission.concurrency.window-size:20}") int windowSize) {
+        this.ipBuckets = new TokenBucketRegistry(ipCapacity, ipRefillPerSecond, maxTrackedClients);
+        this.userBuckets = new TokenBucketRegistry(userCapacity, userRefillPerSecond, maxTrackedClients);
+        this.limiterFactory = route ->
+                new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance, windowSize);
+        System.out.println("[SINGLETON] AdmissionControl instance created");
+    }
+
+    /**
+     * Decides whether a request may proceed. An admitted request holds a
+     * concurrency permit and must be paired with {@link #release(String, long)}.
+     *
+     * @param route one of the fixed guarded routes; limiters are keyed by it
+     */
+    public Decision admit(String route, String clientIp, String username) {
+        long now = System.nanoTime();
+
+        if (!ipBuckets.tryAcquire(clientIp, now)) {
+            rejectedByIp.increment();
+            return Decision.rejected("client rate limit", ipBuckets.nanosUntilAvailable(clientIp, now));
+        }
+
+        if (username != null && !username.isBlank()) {
+            String key = username.toLowerCase(Locale.ROOT);
+            if (!userBuckets.tryAcquire(key, now)) {
+                rejectedByUser.increment();
+                return Decision.rejected("user rate limit", userBuckets.nanosUntilAvailable(key, now));
+            }
+        }
+
+        if (!limiterFor(route).tryAcquire()) {
+            rejectedByConcurrency.increment();
+            return Decision.rejected("server busy", 0);
+        }
+
+        admitted.increment();
+        return Decision.ADMITTED;
+    }
+
+    public void release(String route, long latencyNanos) {
+        limiterFor(route).release(latencyNanos);
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String route) {
+        return concurrencyLimiters.computeIfAbsent(route, limiterFactory);
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("admitted", admitted.sum());
+        metrics.put("rejectedByIp", rejectedByIp.sum());
+        metrics.put("rejectedByUser", rejectedByUser.sum());
+        metrics.put("rejectedByConcurrency", rejectedByConcurrency.sum());
+        Map<String, Object> routes = new TreeMap<>();
+        concurrencyLimiters.forEach((route, limiter) -> {
+            Map<String, Object> routeMetrics = new LinkedHashMap<>();
+            routeMetrics.put("concurrencyLimit", limiter.getLimit());
+            routeMetrics.put("inFlight", limiter.getInFlight());
+            routeMetrics.put("baselineP90Millis", TimeUnit.NANOSECONDS.toMillis(limiter.getBaselineNanos()));
+            routeMetrics.put("lastWindowP90Millis", TimeUnit.NANOSECONDS.toMillis(limiter.getLastWindowP90Nanos()));
+            routes.put(route, routeMetrics);
+        });
+        metrics.put("routes", routes);
+        metrics.put("trackedIps", ipBuckets.size());
+        metrics.put("trackedUsers", userBuckets.size());
+        return metrics;
+    }
+}
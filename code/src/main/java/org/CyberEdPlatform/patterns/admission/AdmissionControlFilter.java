@@ -0,0 +1,88 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Security-chain filter that guards the CPU- and DB-heavy form posts
+ * (login, registration, checkout) with {@link AdmissionControl}.
+ * Rejected requests get 429 with a Retry-After header.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final List<String> GUARDED_ROUTES = List.of("/login", "/register", "/cart/checkout");
+
+    private final Map<String, RequestMatcher> guarded = new LinkedHashMap<>();
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+        for (String route : GUARDED_ROUTES) {
+            guarded.put(route, new AntPathRequestMatcher(route, HttpMethod.POST.name()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return routeFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String route = routeFor(request);
+        AdmissionControl.Decision decision = admissionControl.admit(route, request.getRemoteAddr(), resolveUsername(request));
+
+        if (!decision.admitted()) {
+            // Written directly rather than via sendError so the error dispatch
+            // doesn't bounce unauthenticated clients to the login page.
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.retryAfterSeconds()));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Too many requests: " + decision.reason());
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admissionControl.release(route, System.nanoTime() - start);
+        }
+    }
+
+    private String routeFor(HttpServletRequest request) {
+        for (Map.Entry<String, RequestMatcher> entry : guarded.entrySet()) {
+            if (entry.getValue().matches(request)) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private String resolveUsername(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
+            return auth.getName();
+        }
+        // Login and registration carry the target account as a form field.
+        return request.getParameter("username");
+    }
+}
@@ -0,0 +1,47 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import org.CyberEdPlatform.patterns.util.BoundedMapEvictor;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded map of token buckets keyed by client (IP or username).
+ * When the map is full, buckets that have refilled completely are evicted
+ * first since dropping them loses nothing; only if every client is mid-burst
+ * are arbitrary entries dropped to keep memory bounded.
+ */
+public final class TokenBucketRegistry {
+
+    private final int capacity;
+    private final double refillPerSecond;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final BoundedMapEvictor<String, TokenBucket> evictor;
+
+    public TokenBucketRegistry(int capacity, double refillPerSecond, int maxEntries) {
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+        this.evictor = new BoundedMapEvictor<>(buckets, maxEntries);
+    }
+
+    public boolean tryAcquire(String key, long nowNanos) {
+        return bucketFor(key, nowNanos).tryAcquire(nowNanos);
+    }
+
+    public long nanosUntilAvailable(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        return bucket == null ? 0L : bucket.nanosUntilAvailable(nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private TokenBucket bucketFor(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        evictor.makeRoom(b -> b.isFull(nowNanos));
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, refillPerSecond, nowNanos));
+    }
+}
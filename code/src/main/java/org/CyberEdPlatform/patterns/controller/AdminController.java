@@ -1,19 +1,42 @@
 package org.CyberEdPlatform.patterns.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.CyberEdPlatform.patterns.admission.AdmissionControl;
+import org.CyberEdPlatform.patterns.journal.PurchaseJournal;
+import org.CyberEdPlatform.patterns.materials.CourseMaterialStore;
 import org.CyberEdPlatform.patterns.model.Course;
+import org.CyberEdPlatform.patterns.querybudget.QueryBudgets;
 import org.CyberEdPlatform.patterns.repository.CourseRepository;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Controller
 @RequestMapping("/admin")
 public class AdminController {
 
     private final CourseRepository courseRepository;
+    private final AdmissionControl admissionControl;
+    private final QueryBudgets queryBudgets;
+    private final PurchaseJournal purchaseJournal;
+    private final CourseMaterialStore materialStore;
 
-    public AdminController(CourseRepository courseRepository) {
+    public AdminController(CourseRepository courseRepository,
+                           AdmissionControl admissionControl,
+                           QueryBudgets queryBudgets,
+                           PurchaseJournal purchaseJournal,
+                           CourseMaterialStore materialStore) {
         this.courseRepository = courseRepository;
+        this.admissionControl = admissionControl;
+        this.queryBudgets = queryBudgets;
+        this.purchaseJournal = purchaseJournal;
+        this.materialStore = materialStore;
         System.out.println("[SINGLETON] AdminController instance created");
     }
 
@@ -43,4 +66,58 @@ public class AdminController {
         courseRepository.deleteById(id);
         return "redirect:/admin/courses";
     }
+
+    /**
+     * Streams the raw request body to disk. Uploads are a PUT of the file
+     * itself rather than multipart, so large files never go through the
+     * container's multipart parsing or its global size limits.
+     */
+    @PutMapping("/courses/{id}/materials/{filename}")
+    @ResponseStatus(HttpStatus.CREATED)
+    public void uploadMaterial(@PathVariable Long id,
+                               @PathVariable String filename,
+                               HttpServletRequest request) throws IOException {
+        System.out.println("[SINGLETON] AdminController uploading material for course " + id);
+        materialStore.store(id, filename, request.getInputStream());
+    }
+
+    @GetMapping("/metrics/admission")
+    @ResponseBody
+    public Map<String, Object> admissionMetrics() {
+        return admissionControl.metrics();
+    }
+
+    @GetMapping("/metrics/queries")
+    @ResponseBody
+    public Map<String, Object> queryMetrics() {
+        return queryBudgets.metrics();
+    }
+
+    @GetMapping("/journal/summary")
+    @ResponseBody
+    public Map<String, Object> journalSummary() {
+        System.out.println("[SINGLETON] AdminController replaying purchase journal");
+
+        // courseId -> {units sold, revenue}
+        Map<Long, double[]> perCourse = new TreeMap<>();
+        long start = System.nanoTime();
+        long records = purchaseJournal.replay((userId, courseId, quantity, unitPrice, timestampMillis) -> {
+            double[] totals = perCourse.computeIfAbsent(courseId, id -> new double[2]);
+            totals[0] += quantity;
+            totals[1] += quantity * unitPrice;
+        });
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Map<Long, Map<String, Object>> courses = new LinkedHashMap<>();
+        perCourse.forEach((courseId, totals) -> courses.put(courseId, Map.of(
+                "unitsSold", (long) totals[0],
+                "revenue", totals[1]
+        )));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("records", records);
+        summary.put("replayMillis", elapsedMillis);
+        summary.put("courses", courses);
+        return summary;
+    }
 }
@@ -0,0 +1,51 @@
+package org.CyberEdPlatform.patterns.controller;
+
+import org.CyberEdPlatform.patterns.dto.CartOperation;
+import org.CyberEdPlatform.patterns.dto.CartView;
+import org.CyberEdPlatform.patterns.service.CartService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cart")
+public class CartApiController {
+
+    private final CartService cartService;
+
+    public CartApiController(CartService cartService) {
+        this.cartService = cartService;
+        System.out.println("[SINGLETON] CartApiController instance created");
+        System.out.println("   -> Injected CartService (FACADE) - Session-scoped");
+    }
+
+    @GetMapping
+    public CartView viewCart() {
+        return CartView.of(cartService.getItems());
+    }
+
+    @PostMapping("/batch")
+    public CartView applyBatch(@RequestBody List<CartOperation> operations) {
+        System.out.println("[FACADE] Using CartService.apply() for " + operations.size() + " operation(s)");
+
+        cartService.apply(operations);
+        return CartView.of(cartService.getItems());
+    }
+
+    @DeleteMapping
+    public CartView clearCart() {
+        cartService.clear();
+        return CartView.of(cartService.getItems());
+    }
+
+    /**
+     * Rejected batches come back as a problem detail so the pages can show
+     * the reason ("detail") without a reload.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ProblemDetail rejectedBatch(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+}
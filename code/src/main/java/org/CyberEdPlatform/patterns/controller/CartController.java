@@ -1,5 +1,8 @@
 package org.CyberEdPlatform.patterns.controller;
 
+import org.CyberEdPlatform.patterns.dto.CartOperation;
+import org.CyberEdPlatform.patterns.journal.PurchaseJournal;
+import org.CyberEdPlatform.patterns.materials.EntitlementCache;
 import org.CyberEdPlatform.patterns.model.Purchase;
 import org.CyberEdPlatform.patterns.model.User;
 import org.CyberEdPlatform.patterns.repository.CourseRepository;
@@ -11,6 +14,9 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.util.List;
 
 @Controller
 @RequestMapping("/cart")
@@ -20,15 +26,21 @@ public class CartController {
     private final PurchaseRepository purchaseRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final PurchaseJournal purchaseJournal;
+    private final EntitlementCache entitlementCache;
 
     public CartController(CartService cartService, 
                          PurchaseRepository purchaseRepository,
                          UserRepository userRepository,
-                         CourseRepository courseRepository) {
+                         CourseRepository courseRepository,
+                         PurchaseJournal purchaseJournal,
+                         EntitlementCache entitlementCache) {
         this.cartService = cartService;
         this.purchaseRepository = purchaseRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
+        this.purchaseJournal = purchaseJournal;
+        this.entitlementCache = entitlementCache;
         System.out.println("[SINGLETON] CartController instance created");
         System.out.println("   -> Injected CartService (FACADE) - Session-scoped");
     }
@@ -43,14 +55,33 @@ public class CartController {
     }
 
     @PostMapping("/add/{id}")
-    public String addToCart(@PathVariable Long id) {
+    public String addToCart(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         System.out.println("[SINGLETON] CartController adding to cart");
-        System.out.println("[FACADE] Using CartService.add() - simple interface");
+        System.out.println("[FACADE] Using CartService.apply() - same checks as the JSON API");
         
-        cartService.add(id);
+        try {
+            cartService.apply(List.of(new CartOperation(CartOperation.Type.ADD, id, 1)));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/courses?error";
+        }
         return "redirect:/courses";
     }
 
+    @PostMapping("/update/{id}")
+    public String updateQuantity(@PathVariable Long id,
+                                 @RequestParam int quantity,
+                                 RedirectAttributes redirectAttributes) {
+        System.out.println("[FACADE] Using CartService.apply() to set quantity");
+        try {
+            cartService.apply(List.of(new CartOperation(CartOperation.Type.SET_QUANTITY, id, quantity)));
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/cart?error";
+        }
+        return "redirect:/cart";
+    }
+
     @PostMapping("/remove/{id}")
     public String removeFromCart(@PathVariable Long id) {
         System.out.println("[FACADE] Using CartService.remove()");
@@ -67,6 +98,7 @@ public class CartController {
 
         System.out.println("[FACADE] Using CartService.getItems() and getTotalPrice()");
         
+        long checkoutTime = System.currentTimeMillis();
         cartService.getItems().forEach((course, qty) -> {
             for (int i = 0; i < qty; i++) {
                 Purchase purchase = new Purchase(user, course);
@@ -76,6 +108,9 @@ public class CartController {
             
             course.setQuantity(course.getQuantity() - qty);
             courseRepository.save(course);
+
+            purchaseJournal.append(user.getId(), course.getId(), qty, course.getPrice(), checkoutTime);
+            entitlementCache.grant(user.getUsername(), course.getId());
         });
 
         System.out.println("[FACADE] Using CartService.clear() to empty cart");
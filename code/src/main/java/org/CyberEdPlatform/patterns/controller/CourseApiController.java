@@ -0,0 +1,32 @@
+package org.CyberEdPlatform.patterns.controller;
+
+import org.CyberEdPlatform.patterns.model.Course;
+import org.CyberEdPlatform.patterns.repository.CourseRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/courses")
+public class CourseApiController {
+
+    private final CourseRepository courseRepository;
+
+    public CourseApiController(CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+        System.out.println("[SINGLETON] CourseApiController instance created");
+    }
+
+    @GetMapping
+    public List<Course> listCourses() {
+        return courseRepository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public Course getCourse(@PathVariable Long id) {
+        return courseRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found: " + id));
+    }
+}
@@ -0,0 +1,172 @@
+package org.CyberEdPlatform.patterns.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.CyberEdPlatform.patterns.materials.CourseMaterialStore;
+import org.CyberEdPlatform.patterns.materials.EntitlementCache;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Serves purchased course materials with single-range {@code Range}/{@code If-Range}
+ * support. Bodies of 48KB or more are handed to Tomcat's sendfile when the
+ * connector supports it, which is zero-copy. Otherwise they are written with
+ * {@link FileChannel#transferTo} into the servlet output stream. That path is
+ * not zero-copy: the JDK copies through a temporary buffer into the stream's
+ * {@code byte[]}. It does avoid an application-level read/write loop.
+ */
+@Controller
+@RequestMapping("/courses/{id}/materials")
+public class MaterialController {
+
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+    // Matches Tomcat's default sendfileSize; smaller bodies aren't worth handing off.
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    private final CourseMaterialStore materialStore;
+    private final EntitlementCache entitlementCache;
+
+    public MaterialController(CourseMaterialStore materialStore, EntitlementCache entitlementCache) {
+        this.materialStore = materialStore;
+        this.entitlementCache = entitlementCache;
+        System.out.println("[SINGLETON] MaterialController instance created");
+    }
+
+    @GetMapping
+    @ResponseBody
+    public List<String> listMaterials(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        requireEntitlement(id, userDetails);
+        return materialStore.list(id);
+    }
+
+    @GetMapping("/{*path}")
+    public void download(@PathVariable Long id,
+                         @PathVariable String path,
+                         @AuthenticationPrincipal UserDetails userDetails,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        requireEntitlement(id, userDetails);
+
+        Path file = materialStore.resolve(id, path)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Material not found: " + path));
+
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+        if (rangeHeader == null && new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(file.getFileName().toString(), StandardCharsets.UTF_8).build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multi-range requests fall back to the full body instead of multipart/byteranges.
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    // HttpRange doesn't reject a first byte past the end (e.g. "bytes=<length>-" from a
+                    // client resuming a finished download) or an empty suffix ("bytes=-0").
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Unsatisfiable range: " + rangeHeader);
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_THRESHOLD && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private void requireEntitlement(Long courseId, UserDetails userDetails) {
+        boolean admin = userDetails.getAuthorities().stream()
+                .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (!admin && !entitlementCache.isEntitled(userDetails.getUsername(), courseId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Course not purchased: " + courseId);
+        }
+    }
+
+    /**
+     * {@code If-Range} holds either a strong ETag or an HTTP date; the range
+     * applies only if the file is unchanged, otherwise the full body is sent.
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
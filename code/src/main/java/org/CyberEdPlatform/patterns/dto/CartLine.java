@@ -0,0 +1,3 @@
+package org.CyberEdPlatform.patterns.dto;
+
+public record CartLine(Long courseId, String title, double price, int quantity, double subtotal) {}
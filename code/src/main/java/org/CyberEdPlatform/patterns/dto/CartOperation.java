@@ -0,0 +1,14 @@
+package org.CyberEdPlatform.patterns.dto;
+
+/**
+ * A single cart mutation sent to the batch endpoint.
+ * Quantity is optional for ADD (defaults to 1) and ignored for REMOVE.
+ */
+public record CartOperation(Type op, Long courseId, Integer quantity) {
+
+    public enum Type {
+        ADD,
+        REMOVE,
+        SET_QUANTITY
+    }
+}
@@ -0,0 +1,27 @@
+package org.CyberEdPlatform.patterns.dto;
+
+import org.CyberEdPlatform.patterns.model.Course;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Priced snapshot of the session cart returned by the JSON API.
+ */
+public record CartView(List<CartLine> items, int totalItems, double totalPrice) {
+
+    public static CartView of(Map<Course, Integer> items) {
+        List<CartLine> lines = items.entrySet().stream()
+                .map(e -> new CartLine(
+                        e.getKey().getId(),
+                        e.getKey().getTitle(),
+                        e.getKey().getPrice(),
+                        e.getValue(),
+                        e.getKey().getPrice() * e.getValue()))
+                .toList();
+
+        int totalItems = lines.stream().mapToInt(CartLine::quantity).sum();
+        double totalPrice = lines.stream().mapToDouble(CartLine::subtotal).sum();
+        return new CartView(lines, totalItems, totalPrice);
+    }
+}
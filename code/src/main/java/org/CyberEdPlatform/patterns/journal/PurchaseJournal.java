@@ -0,0 +1,215 @@
+package org.CyberEdPlatform.patterns.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of checked-out cart lines.
+ *
+ * Records are fixed-size (40 bytes) and stored in pre-allocated segment files
+ * named {@code purchases-<index>.journal}; a full segment is forced to disk and
+ * a new one is started. Each record ends with a CRC32C of its payload, so a
+ * zeroed slot or a record torn by a crash marks the end of valid data.
+ * The mapping is forced every {@code journal.fsync-every-records} appends, and
+ * a scheduled {@link #flush()} forces any pending records every
+ * {@code journal.fsync-interval-ms}, so no record stays unforced longer than
+ * that interval. Pending records are also forced on shutdown.
+ *
+ * Record layout (big-endian):
+ * <pre>
+ *   0  long   userId
+ *   8  long   courseId
+ *  16  int    quantity
+ *  20  double unitPrice
+ *  28  long   timestampMillis
+ *  36  int    crc32c(bytes 0..35)
+ * </pre>
+ */
+@Component
+public class PurchaseJournal {
+
+    static final int RECORD_SIZE = 40;
+    private static final int PAYLOAD_SIZE = 36;
+    private static final String SEGMENT_PREFIX = "purchases-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int fsyncEveryRecords;
+    private final CRC32C writeCrc = new CRC32C();
+
+    private long segmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private ByteBuffer segmentView;
+    private int writeOffset;
+    private int unflushedRecords;
+
+    public PurchaseJournal(@Value("${journal.directory:data/journal}") String directory,
+                           @Value("${journal.segment-size-bytes:67108864}") long segmentSizeBytes,
+                           @Value("${journal.fsync-every-records:64}") int fsyncEveryRecords) throws IOException {
+        if (segmentSizeBytes < RECORD_SIZE || segmentSizeBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("journal.segment-size-bytes must be between "
+                    + RECORD_SIZE + " and " + Integer.MAX_VALUE);
+        }
+        this.directory = Paths.get(directory);
+        this.segmentBytes = (int) (segmentSizeBytes - segmentSizeBytes % RECORD_SIZE);
+        this.fsyncEveryRecords = Math.max(1, fsyncEveryRecords);
+
+        Files.createDirectories(this.directory);
+        List<Path> existing = segments();
+        openSegment(existing.isEmpty() ? 0 : indexOf(existing.get(existing.size() - 1)));
+        System.out.println("[SINGLETON] PurchaseJournal opened at " + this.directory.toAbsolutePath()
+                + " (segment " + segmentIndex + ", offset " + writeOffset + ")");
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code quantity <= 0}; such a record
+     *         would read back as the end of the segment and hide later records
+     */
+    public synchronized void append(long userId, long courseId, int quantity, double unitPrice, long timestampMillis) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Journal quantity must be positive: " + quantity);
+        }
+        if (writeOffset + RECORD_SIZE > segmentBytes) {
+            roll();
+        }
+
+        int offset = writeOffset;
+        segment.putLong(offset, userId);
+        segment.putLong(offset + 8, courseId);
+        segment.putInt(offset + 16, quantity);
+        segment.putDouble(offset + 20, unitPrice);
+        segment.putLong(offset + 28, timestampMillis);
+        segment.putInt(offset + PAYLOAD_SIZE, crc(writeCrc, segmentView, offset));
+
+        writeOffset += RECORD_SIZE;
+        unflushedRecords++;
+        if (unflushedRecords >= fsyncEveryRecords) {
+            force();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${journal.fsync-interval-ms:200}")
+    public synchronized void flush() {
+        if (unflushedRecords > 0) {
+            force();
+        }
+    }
+
+    /**
+     * Streams every valid record, oldest first, to the handler.
+     * Safe to call while the journal is being appended to; records written
+     * concurrently may or may not be seen.
+     *
+     * @return number of records replayed
+     */
+    public long replay(PurchaseRecordHandler handler) {
+        CRC32C crc = new CRC32C();
+        long count = 0;
+        for (Path path : segments()) {
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                ByteBuffer view = buffer.duplicate();
+                int limit = (int) (readChannel.size() - readChannel.size() % RECORD_SIZE);
+
+                for (int offset = 0; offset < limit && isValid(crc, buffer, view, offset); offset += RECORD_SIZE) {
+                    handler.onRecord(
+                            buffer.getLong(offset),
+                            buffer.getLong(offset + 8),
+                            buffer.getInt(offset + 16),
+                            buffer.getDouble(offset + 20),
+                            buffer.getLong(offset + 28));
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to replay journal segment " + path, e);
+            }
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        segment.force();
+        channel.close();
+    }
+
+    private void force() {
+        segment.force();
+        unflushedRecords = 0;
+    }
+
+    private void roll() {
+        try {
+            segment.force();
+            channel.close();
+            openSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll purchase journal segment", e);
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentView = segment.duplicate();
+        segmentIndex = index;
+        unflushedRecords = 0;
+
+        // Recover the write position: the first slot that doesn't hold a valid record.
+        CRC32C crc = new CRC32C();
+        int offset = 0;
+        while (offset + RECORD_SIZE <= segmentBytes && isValid(crc, segment, segmentView, offset)) {
+            offset += RECORD_SIZE;
+        }
+        writeOffset = offset;
+    }
+
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list purchase journal segments in " + directory, e);
+        }
+    }
+
+    private static long indexOf(Path segmentPath) {
+        String name = segmentPath.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isValid(CRC32C crc, ByteBuffer buffer, ByteBuffer view, int offset) {
+        return buffer.getInt(offset + 16) > 0 && buffer.getInt(offset + PAYLOAD_SIZE) == crc(crc, view, offset);
+    }
+
+    private static int crc(CRC32C crc, ByteBuffer view, int offset) {
+        crc.reset();
+        view.limit(offset + PAYLOAD_SIZE).position(offset);
+        crc.update(view);
+        view.limit(view.capacity());
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,11 @@
+package org.CyberEdPlatform.patterns.journal;
+
+/**
+ * Callback for {@link PurchaseJournal#replay}. Fields are passed as
+ * primitives so replaying millions of records allocates nothing per record.
+ */
+@FunctionalInterface
+public interface PurchaseRecordHandler {
+
+    void onRecord(long userId, long courseId, int quantity, double unitPrice, long timestampMillis);
+}
@@ -0,0 +1,99 @@
+package org.CyberEdPlatform.patterns.materials;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Course materials on local disk, one directory per course:
+ * {@code <materials.directory>/<courseId>/<relative path>}.
+ */
+@Component
+public class CourseMaterialStore {
+
+    private static final String STAGING_DIRECTORY = ".staging";
+
+    private final Path root;
+    private final Path staging;
+
+    public CourseMaterialStore(@Value("${materials.directory:data/materials}") String directory) throws IOException {
+        this.root = Files.createDirectories(Paths.get(directory)).toRealPath();
+        // Course directories are named by numeric id, so this can never be one.
+        this.staging = Files.createDirectories(root.resolve(STAGING_DIRECTORY));
+        System.out.println("[SINGLETON] CourseMaterialStore serving from " + root);
+    }
+
+    /**
+     * Resolves a request path to a regular file inside the course directory.
+     * Paths escaping the directory (via {@code ..} or symlinks) resolve to empty.
+     */
+    public Optional<Path> resolve(Long courseId, String relativePath) {
+        Path courseDir = courseDirectory(courseId);
+        String cleaned = relativePath.startsWith("/") ? relativePath.substring(1) : relativePath;
+        if (cleaned.isEmpty() || !Files.isDirectory(courseDir)) {
+            return Optional.empty();
+        }
+
+        try {
+            Path file = courseDir.resolve(cleaned).normalize();
+            if (!file.startsWith(courseDir) || !Files.isRegularFile(file)) {
+                return Optional.empty();
+            }
+            Path real = file.toRealPath();
+            return real.startsWith(courseDir.toRealPath()) ? Optional.of(real) : Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public List<String> list(Long courseId) {
+        Path courseDir = courseDirectory(courseId);
+        if (!Files.isDirectory(courseDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(courseDir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .map(p -> courseDir.relativize(p).toString().replace('\\', '/'))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list materials for course " + courseId, e);
+        }
+    }
+
+    /**
+     * Streams a material into the course directory. The data goes to a
+     * temporary file under the staging directory first, where it can't be
+     * listed or downloaded, and is moved into place once complete, so a failed
+     * upload never replaces an existing file.
+     */
+    public void store(Long courseId, String filename, InputStream content) throws IOException {
+        String name = Paths.get(filename).getFileName().toString();
+        if (name.isBlank() || name.equals("..") || name.equals(".") || !name.equals(filename)) {
+            throw new IllegalArgumentException("Invalid material file name: " + filename);
+        }
+        Path courseDir = Files.createDirectories(courseDirectory(courseId));
+        Path temp = Files.createTempFile(staging, ".upload-", ".tmp");
+        try {
+            Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, courseDir.resolve(name), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path courseDirectory(Long courseId) {
+        return root.resolve(courseId.toString());
+    }
+}
@@ -0,0 +1,64 @@
+package org.CyberEdPlatform.patterns.materials;
+
+import org.CyberEdPlatform.patterns.repository.PurchaseRepository;
+import org.CyberEdPlatform.patterns.util.BoundedMapEvictor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches "has this user purchased this course" answers so resumed and
+ * chunked downloads don't query {@link PurchaseRepository} on every request.
+ * Negative answers expire quickly; checkout calls {@link #grant} directly.
+ */
+@Component
+public class EntitlementCache {
+
+    private record Key(String username, Long courseId) {}
+
+    private record Entry(boolean entitled, long expiresAtNanos) {}
+
+    private final PurchaseRepository purchaseRepository;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final BoundedMapEvictor<Key, Entry> evictor;
+
+    public EntitlementCache(PurchaseRepository purchaseRepository,
+                            @Value("${materials.entitlement-cache.positive-ttl:10m}") Duration positiveTtl,
+                            @Value("${materials.entitlement-cache.negative-ttl:30s}") Duration negativeTtl,
+                            @Value("${materials.entitlement-cache.max-entries:10000}") int maxEntries) {
+        this.purchaseRepository = purchaseRepository;
+        this.positiveTtlNanos = positiveTtl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.evictor = new BoundedMapEvictor<>(entries, maxEntries);
+    }
+
+    public boolean isEntitled(String username, Long courseId) {
+        Key key = new Key(username, courseId);
+        long now = System.nanoTime();
+
+        Entry cached = entries.get(key);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            return cached.entitled();
+        }
+
+        boolean entitled = purchaseRepository.existsByUserUsernameAndCourseId(username, courseId);
+        put(key, entitled, now);
+        return entitled;
+    }
+
+    public void grant(String username, Long courseId) {
+        put(new Key(username, courseId), true, System.nanoTime());
+    }
+
+    private void put(Key key, boolean entitled, long now) {
+        if (!entries.containsKey(key)) {
+            evictor.makeRoom(e -> e.expiresAtNanos() - now <= 0);
+        }
+        entries.put(key, new Entry(entitled, now + (entitled ? positiveTtlNanos : negativeTtlNanos)));
+    }
+}
@@ -0,0 +1,20 @@
+package org.CyberEdPlatform.patterns.querybudget;
+
+import java.util.List;
+
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<String> statements;
+
+    public QueryBudgetExceededException(String endpoint, int budget, List<String> statements) {
+        super("Query budget exceeded for " + endpoint + ": " + statements.size() + " statements, budget " + budget
+                + "\n  " + String.join("\n  ", statements));
+        this.statements = List.copyOf(statements);
+    }
+
+    public List<String> getStatements() {
+        return statements;
+    }
+}
@@ -0,0 +1,57 @@
+package org.CyberEdPlatform.patterns.querybudget;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Opens a {@link QueryCounter} scope around the whole request, security
+ * chain included, and hands the captured statements to {@link QueryBudgets}.
+ * Every request is recorded, including ones that fail.
+ *
+ * With {@code query-budget.fail-on-exceed=true} the budget exception is thrown
+ * only for requests that completed normally, and only after the response has
+ * been rendered. In a real servlet container the response is usually
+ * committed by then, so the client still sees the original status and the
+ * exception is only logged. The flag is meant for MockMvc tests, where the
+ * exception reaches the caller of {@code perform}.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".queryCount";
+
+    private final QueryCounter queryCounter;
+    private final QueryBudgets queryBudgets;
+
+    public QueryBudgetFilter(QueryCounter queryCounter, QueryBudgets queryBudgets) {
+        this.queryCounter = queryCounter;
+        this.queryBudgets = queryBudgets;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        queryCounter.begin();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            List<String> statements = queryCounter.end();
+            request.setAttribute(QUERY_COUNT_ATTRIBUTE, statements.size());
+
+            Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            String endpoint = handler != null ? request.getMethod() + " " + handler : "unmapped";
+            // A failed request is recorded but never enforced, so its own exception isn't masked.
+            queryBudgets.record(path, endpoint, statements, completed);
+        }
+    }
+}
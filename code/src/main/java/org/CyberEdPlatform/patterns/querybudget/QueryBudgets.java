@@ -0,0 +1,129 @@
+package org.CyberEdPlatform.patterns.querybudget;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint SQL statement budgets and per-request query metrics.
+ *
+ * Budgets are seeded from {@code query-budget.limits} (e.g. {@code /cart:2,/courses:1})
+ * and can be changed at runtime, which is how integration tests declare them;
+ * {@link #resetBudgets()} restores the configured set.
+ * With {@code query-budget.fail-on-exceed=true} an over-budget request throws
+ * {@link QueryBudgetExceededException} listing the offending SQL; otherwise it is logged.
+ */
+@Component
+public class QueryBudgets {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final Map<String, Integer> budgets = new ConcurrentHashMap<>();
+    private final Map<String, Integer> configuredBudgets = new LinkedHashMap<>();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private volatile boolean failOnExceed;
+
+    public QueryBudgets(@Value("${query-budget.limits:}") List<String> limits,
+                        @Value("${query-budget.fail-on-exceed:false}") boolean failOnExceed) {
+        for (String limit : limits) {
+            if (limit.isBlank()) {
+                continue;
+            }
+            int separator = limit.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <path-pattern>:<max-queries> but got: " + limit);
+            }
+            configuredBudgets.put(limit.substring(0, separator).trim(),
+                    Integer.parseInt(limit.substring(separator + 1).trim()));
+        }
+        budgets.putAll(configuredBudgets);
+        this.failOnExceed = failOnExceed;
+    }
+
+    public void setBudget(String pathPattern, int maxQueries) {
+        budgets.put(pathPattern, maxQueries);
+    }
+
+    public void clearBudget(String pathPattern) {
+        budgets.remove(pathPattern);
+    }
+
+    /** Drops runtime changes and restores the budgets from {@code query-budget.limits}. */
+    public void resetBudgets() {
+        budgets.clear();
+        budgets.putAll(configuredBudgets);
+    }
+
+    public void setFailOnExceed(boolean failOnExceed) {
+        this.failOnExceed = failOnExceed;
+    }
+
+    /**
+     * Records the statements issued by one request and checks them against
+     * the tightest matching budget.
+     *
+     * @param path    request path used for budget matching
+     * @param handler handler pattern used to group metrics (bounded cardinality)
+     * @param enforce whether an exceeded budget may throw; when false it is only logged
+     */
+    public void record(String path, String handler, List<String> statements, boolean enforce) {
+        stats.computeIfAbsent(handler, h -> new EndpointStats()).record(statements.size());
+
+        Integer budget = budgetFor(path);
+        if (budget == null || statements.size() <= budget) {
+            return;
+        }
+
+        QueryBudgetExceededException exceeded = new QueryBudgetExceededException(path, budget, statements);
+        if (failOnExceed && enforce) {
+            throw exceeded;
+        }
+        System.out.println("[QUERY BUDGET] " + exceeded.getMessage());
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        stats.forEach((handler, s) -> metrics.put(handler, s.snapshot()));
+        return metrics;
+    }
+
+    private Integer budgetFor(String path) {
+        Integer tightest = null;
+        for (Map.Entry<String, Integer> entry : budgets.entrySet()) {
+            if (pathMatcher.match(entry.getKey(), path) && (tightest == null || entry.getValue() < tightest)) {
+                tightest = entry.getValue();
+            }
+        }
+        return tightest;
+    }
+
+    private static final class EndpointStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final AtomicLong maxQueries = new AtomicLong();
+
+        void record(int count) {
+            requests.increment();
+            queries.add(count);
+            maxQueries.accumulateAndGet(count, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long requestCount = requests.sum();
+            long queryCount = queries.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("requests", requestCount);
+            snapshot.put("queries", queryCount);
+            snapshot.put("avgQueries", requestCount == 0 ? 0.0 : (double) queryCount / requestCount);
+            snapshot.put("maxQueries", maxQueries.get());
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.CyberEdPlatform.patterns.querybudget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector that records every SQL statement prepared on
+ * the current thread while a request scope is open.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<List<String>> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = CURRENT.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    public void begin() {
+        CURRENT.set(new ArrayList<>());
+    }
+
+    public List<String> end() {
+        List<String> statements = CURRENT.get();
+        CURRENT.remove();
+        return statements == null ? List.of() : statements;
+    }
+}
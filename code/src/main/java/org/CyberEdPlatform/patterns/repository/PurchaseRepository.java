@@ -7,4 +7,5 @@ import java.util.List;
 
 public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
     List<Purchase> findByUser(User user);
+    boolean existsByUserUsernameAndCourseId(String username, Long courseId);
 }
@@ -1,19 +1,26 @@
 package org.CyberEdPlatform.patterns.service;
 
+import org.CyberEdPlatform.patterns.dto.CartOperation;
 import org.CyberEdPlatform.patterns.model.Course;
 import org.CyberEdPlatform.patterns.repository.CourseRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.web.context.annotation.SessionScope;
 
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.AbstractMap;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @SessionScope
 public class CartService {
 
+    /** Upper bound on a single cart line, on top of the course's own stock. */
+    public static final int MAX_QUANTITY_PER_COURSE = 100;
+
     private final CourseRepository courseRepo;
     private final Map<Long, Integer> items = new LinkedHashMap<>();
 
@@ -21,39 +28,102 @@ public class CartService {
         this.courseRepo = courseRepo;
     }
 
-    public Map<Course, Integer> getItems() {
-        return items.entrySet().stream()
-                .map(e -> {
-                    return courseRepo.findById(e.getKey())
-                            .map(c -> new AbstractMap.SimpleEntry<>(c, e.getValue()))
-                            .orElse(null);
-                })
-                .filter(entry -> entry != null)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (a, b) -> a,
-                        LinkedHashMap::new
-                ));
+    public synchronized Map<Course, Integer> getItems() {
+        if (items.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        // One IN query for the whole cart instead of a findById per entry.
+        Map<Long, Course> courses = courseRepo.findAllById(items.keySet()).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        Map<Course, Integer> result = new LinkedHashMap<>();
+        items.forEach((id, qty) -> {
+            Course course = courses.get(id);
+            if (course != null) {
+                result.put(course, qty);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Applies a batch of operations in order. The batch is applied to a copy
+     * and only committed if every resulting line refers to an existing course
+     * and stays within its stock (and {@link #MAX_QUANTITY_PER_COURSE}), so a
+     * bad entry leaves the cart untouched.
+     */
+    public synchronized void apply(List<CartOperation> operations) {
+        for (CartOperation op : operations) {
+            validate(op);
+        }
+
+        Map<Long, Long> updated = new LinkedHashMap<>();
+        items.forEach((id, qty) -> updated.put(id, (long) qty));
+        Set<Long> touched = new LinkedHashSet<>();
+
+        for (CartOperation op : operations) {
+            switch (op.op()) {
+                case ADD -> updated.merge(op.courseId(), op.quantity() == null ? 1L : op.quantity(), Long::sum);
+                case REMOVE -> updated.remove(op.courseId());
+                case SET_QUANTITY -> {
+                    if (op.quantity() <= 0) {
+                        updated.remove(op.courseId());
+                    } else {
+                        updated.put(op.courseId(), (long) op.quantity());
+                    }
+                }
+            }
+            if (op.op() != CartOperation.Type.REMOVE) {
+                touched.add(op.courseId());
+            }
+        }
+        touched.retainAll(updated.keySet());
+
+        if (!touched.isEmpty()) {
+            Map<Long, Course> courses = courseRepo.findAllById(touched).stream()
+                    .collect(Collectors.toMap(Course::getId, Function.identity()));
+            for (Long id : touched) {
+                Course course = courses.get(id);
+                if (course == null) {
+                    throw new IllegalArgumentException("Unknown course: " + id);
+                }
+                long max = Math.min(course.getQuantity(), MAX_QUANTITY_PER_COURSE);
+                if (updated.get(id) > max) {
+                    throw new IllegalArgumentException("Quantity for course " + id + " exceeds the available " + max);
+                }
+            }
+        }
+
+        items.clear();
+        updated.forEach((id, qty) -> items.put(id, qty.intValue()));
     }
 
-    public void add(Long courseId) {
-        items.merge(courseId, 1, Integer::sum);
+    private void validate(CartOperation op) {
+        if (op == null || op.op() == null || op.courseId() == null) {
+            throw new IllegalArgumentException("Cart operation requires 'op' and 'courseId'");
+        }
+        if (op.op() == CartOperation.Type.ADD && op.quantity() != null && op.quantity() < 1) {
+            throw new IllegalArgumentException("ADD quantity must be at least 1");
+        }
+        if (op.op() == CartOperation.Type.SET_QUANTITY && op.quantity() == null) {
+            throw new IllegalArgumentException("SET_QUANTITY requires 'quantity'");
+        }
     }
 
-    public void remove(Long courseId) {
+    public synchronized void remove(Long courseId) {
         items.remove(courseId);
     }
 
-    public void clear() {
+    public synchronized void clear() {
         items.clear();
     }
 
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return items.isEmpty();
     }
 
-    public int getTotalItems() {
+    public synchronized int getTotalItems() {
         return items.values().stream().mapToInt(Integer::intValue).sum();
     }
 
@@ -0,0 +1,51 @@
+package org.CyberEdPlatform.patterns.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a concurrent map below a size bound. Once the map reaches
+ * {@code maxEntries}, a single thread removes entries the caller marks as
+ * evictable, then drops arbitrary entries until the map is back at a low-water
+ * mark (7/8 of the bound). The headroom means a full sweep happens at most
+ * once every {@code maxEntries / 8} insertions, not on every miss.
+ */
+public final class BoundedMapEvictor<K, V> {
+
+    private final Map<K, V> map;
+    private final int maxEntries;
+    private final int lowWaterMark;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    public BoundedMapEvictor(Map<K, V> map, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be >= 1");
+        }
+        this.map = map;
+        this.maxEntries = maxEntries;
+        this.lowWaterMark = maxEntries - Math.max(1, maxEntries / 8);
+    }
+
+    /**
+     * Call before inserting a new key. Other threads proceed while one sweeps,
+     * so the map may briefly overshoot the bound.
+     */
+    public void makeRoom(Predicate<V> evictable) {
+        if (map.size() < maxEntries || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            map.values().removeIf(evictable);
+
+            Iterator<K> keys = map.keySet().iterator();
+            while (map.size() > lowWaterMark && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
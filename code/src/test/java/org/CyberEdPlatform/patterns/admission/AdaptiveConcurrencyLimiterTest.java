@@ -0,0 +1,87 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void rejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 4);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(10 * MILLIS);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void backsOffWhenWindowP90ExceedsBaselineTimesTolerance() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 2.0, 4);
+
+        sequentialWindow(limiter, 4, 10 * MILLIS);
+        assertEquals(10, limiter.getLimit());
+        assertEquals(10 * MILLIS, limiter.getBaselineNanos());
+
+        sequentialWindow(limiter, 4, 50 * MILLIS);
+        assertEquals(9, limiter.getLimit());
+        assertEquals(50 * MILLIS, limiter.getLastWindowP90Nanos());
+    }
+
+    @Test
+    void singleSlowSampleDoesNotBackOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 2.0, 10);
+        sequentialWindow(limiter, 10, 10 * MILLIS);
+
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire();
+            limiter.release(10 * MILLIS);
+        }
+        limiter.tryAcquire();
+        limiter.release(1_000 * MILLIS);
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void growsOnlyWhenWindowUsedHalfTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 20, 2.0, 4);
+
+        // One request at a time: 1 * 2 < 4, so the limit is not grown.
+        sequentialWindow(limiter, 4, 10 * MILLIS);
+        assertEquals(4, limiter.getLimit());
+
+        // Two in flight: 2 * 2 >= 4, so the limit grows by one.
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryAcquire());
+            assertTrue(limiter.tryAcquire());
+            limiter.release(10 * MILLIS);
+            limiter.release(10 * MILLIS);
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void neverShrinksBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 20, 2.0, 4);
+        sequentialWindow(limiter, 4, 10 * MILLIS);
+
+        for (int i = 0; i < 5; i++) {
+            sequentialWindow(limiter, 4, 1_000 * MILLIS);
+        }
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private static void sequentialWindow(AdaptiveConcurrencyLimiter limiter, int windowSize, long latencyNanos) {
+        for (int i = 0; i < windowSize; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdmissionControlFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${admission.user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${admission.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Test
+    void rejectsLoginOnceUserBucketIsExhausted() throws Exception {
+        for (int i = 0; i < userCapacity; i++) {
+            mockMvc.perform(login("203.0.113.10", "bucket-user"))
+                    .andExpect(status().is3xxRedirection());
+        }
+
+        mockMvc.perform(login("203.0.113.10", "bucket-user"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesPattern("[1-9][0-9]*")));
+    }
+
+    @Test
+    void rejectsCheckoutOnceClientBucketIsExhausted() throws Exception {
+        // Anonymous checkouts carry no username, so only the per-IP bucket applies.
+        // The bucket refills while the loop runs, so allow a few extra attempts.
+        int status = 0;
+        for (int i = 0; i <= ipCapacity * 2 && status != 429; i++) {
+            status = mockMvc.perform(anonymousCheckout("203.0.113.20"))
+                    .andReturn().getResponse().getStatus();
+        }
+
+        mockMvc.perform(anonymousCheckout("203.0.113.20"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesPattern("[1-9][0-9]*")));
+    }
+
+    private static MockHttpServletRequestBuilder anonymousCheckout(String remoteAddr) {
+        return post("/cart/checkout")
+                .with(csrf())
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+
+    private static MockHttpServletRequestBuilder login(String remoteAddr, String username) {
+        return post("/login")
+                .param("username", username)
+                .param("password", "wrong-password")
+                .with(csrf())
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,58 @@
+package org.CyberEdPlatform.patterns.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void admitsBurstOfCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(3, 1.0, 0);
+
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(0));
+        assertFalse(bucket.tryAcquire(0));
+        assertFalse(bucket.isFull(0));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, 1.0, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(SECOND, bucket.nanosUntilAvailable(0));
+        assertEquals(SECOND / 4, bucket.nanosUntilAvailable(3 * SECOND / 4));
+        assertFalse(bucket.tryAcquire(SECOND - 1));
+        assertTrue(bucket.tryAcquire(SECOND));
+        assertFalse(bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void becomesFullAgainAfterIdlePeriod() {
+        TokenBucket bucket = new TokenBucket(2, 2.0, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertTrue(bucket.isFull(SECOND));
+        assertEquals(0, bucket.nanosUntilAvailable(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND));
+        assertTrue(bucket.tryAcquire(SECOND));
+        assertFalse(bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, AdmissionControl.Decision.rejected("test", 0).retryAfterSeconds());
+        assertEquals(1, AdmissionControl.Decision.rejected("test", 1).retryAfterSeconds());
+        assertEquals(1, AdmissionControl.Decision.rejected("test", SECOND).retryAfterSeconds());
+        assertEquals(2, AdmissionControl.Decision.rejected("test", SECOND + 1).retryAfterSeconds());
+        assertEquals(5, AdmissionControl.Decision.rejected("test", 4 * SECOND + SECOND / 2).retryAfterSeconds());
+    }
+}
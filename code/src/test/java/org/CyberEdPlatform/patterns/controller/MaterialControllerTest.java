@@ -0,0 +1,191 @@
+package org.CyberEdPlatform.patterns.controller;
+
+import org.CyberEdPlatform.patterns.model.Course;
+import org.CyberEdPlatform.patterns.model.Purchase;
+import org.CyberEdPlatform.patterns.model.Role;
+import org.CyberEdPlatform.patterns.model.User;
+import org.CyberEdPlatform.patterns.querybudget.QueryBudgetFilter;
+import org.CyberEdPlatform.patterns.repository.CourseRepository;
+import org.CyberEdPlatform.patterns.repository.PurchaseRepository;
+import org.CyberEdPlatform.patterns.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class MaterialControllerTest {
+
+    private static final long COURSE_ID = 4242L;
+    private static final String URL = "/courses/" + COURSE_ID + "/materials/notes.bin";
+    private static final Path MATERIALS = Paths.get("target/test-data/materials");
+    private static final String BUYER = "materials-buyer";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PurchaseRepository purchaseRepository;
+
+    private byte[] data;
+
+    @BeforeEach
+    void writeMaterial() throws Exception {
+        data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Path dir = Files.createDirectories(MATERIALS.resolve(Long.toString(COURSE_ID)));
+        Files.write(dir.resolve("notes.bin"), data);
+    }
+
+    @Test
+    void servesWholeFileWithoutRange() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void servesSingleRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/100"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 10, 20)));
+    }
+
+    @Test
+    void servesSuffixRange() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 95-99/100"))
+                .andExpect(content().bytes(Arrays.copyOfRange(data, 95, 100)));
+    }
+
+    @Test
+    void rejectsRangeStartingAtOrPastEnd() throws Exception {
+        for (String range : new String[] {"bytes=100-", "bytes=5000-", "bytes=5000-6000", "bytes=-0"}) {
+            mockMvc.perform(get(URL).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isRequestedRangeNotSatisfiable())
+                    .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100"));
+        }
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get(URL)
+                        .header(HttpHeaders.RANGE, "bytes=10-19")
+                        .header(HttpHeaders.IF_RANGE, "\"stale-etag\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data));
+    }
+
+    @Test
+    void adminUploadStreamsRawBodyToDisk() throws Exception {
+        byte[] upload = "lab instructions".getBytes();
+
+        mockMvc.perform(put("/admin/courses/" + COURSE_ID + "/materials/lab.txt")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(upload))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/courses/" + COURSE_ID + "/materials/lab.txt"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(upload));
+    }
+
+    @Test
+    @WithMockUser
+    void forbidsUsersWithoutPurchase() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = BUYER)
+    void cachesEntitlementAcrossDownloads() throws Exception {
+        User buyer = userRepository.findByUsername(BUYER).orElseGet(() -> {
+            User user = new User();
+            user.setUsername(BUYER);
+            user.setPassword("unused");
+            user.addRole(Role.ROLE_USER);
+            return userRepository.save(user);
+        });
+        // A fresh course per run, so the entitlement can't already be cached.
+        Course course = courseRepository.save(new Course("Materials Test Course", "Entitlement fixture", 10.0, 5));
+        purchaseRepository.save(new Purchase(buyer, course));
+
+        Path dir = Files.createDirectories(MATERIALS.resolve(course.getId().toString()));
+        Files.write(dir.resolve("notes.bin"), data);
+        String url = "/courses/" + course.getId() + "/materials/notes.bin";
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data))
+                .andExpect(request().attribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE, 1));
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(data))
+                .andExpect(request().attribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE, 0));
+    }
+
+    @Test
+    void doesNotServeFilesOutsideCourseDirectory() throws Exception {
+        Files.write(MATERIALS.resolve("secret.txt"), "secret".getBytes());
+        Path other = Files.createDirectories(MATERIALS.resolve(Long.toString(COURSE_ID + 1)));
+        Files.write(other.resolve("notes.bin"), data);
+
+        // The security firewall rejects non-normalized paths before they reach
+        // the controller, so these may fail with 400 rather than 404.
+        for (String path : new String[] {
+                "/../secret.txt",
+                "/../" + (COURSE_ID + 1) + "/notes.bin",
+                "/%2e%2e/secret.txt",
+                "/..%2fsecret.txt"}) {
+            mockMvc.perform(get(URI.create("/courses/" + COURSE_ID + "/materials" + path)))
+                    .andExpect(status().is4xxClientError());
+        }
+    }
+
+    @Test
+    void doesNotFollowSymlinksOutOfCourseDirectory() throws Exception {
+        Path secret = Files.write(MATERIALS.resolve("secret.txt"), "secret".getBytes());
+        Path link = MATERIALS.resolve(Long.toString(COURSE_ID)).resolve("link.txt");
+        Files.deleteIfExists(link);
+        Files.createSymbolicLink(link, secret.toAbsolutePath());
+
+        mockMvc.perform(get("/courses/" + COURSE_ID + "/materials/link.txt"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,131 @@
+package org.CyberEdPlatform.patterns.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PurchaseJournalTest {
+
+    private static final int RECORDS_PER_SEGMENT = 3;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysRecordsAcrossSegmentRoll() throws IOException {
+        PurchaseJournal journal = open();
+        for (int i = 0; i < 7; i++) {
+            journal.append(i, 100 + i, i + 1, 9.5 * i, 1_000L + i);
+        }
+
+        List<long[]> records = new ArrayList<>();
+        long count = journal.replay((userId, courseId, quantity, unitPrice, timestamp) ->
+                records.add(new long[]{userId, courseId, quantity, (long) (unitPrice * 2), timestamp}));
+        journal.close();
+
+        assertEquals(7, count);
+        assertEquals(3, segmentFiles().size());
+        for (int i = 0; i < 7; i++) {
+            long[] record = records.get(i);
+            assertEquals(i, record[0]);
+            assertEquals(100 + i, record[1]);
+            assertEquals(i + 1, record[2]);
+            assertEquals(19L * i, record[3]);
+            assertEquals(1_000L + i, record[4]);
+        }
+    }
+
+    @Test
+    void reopenResumesAfterLastRecord() throws IOException {
+        PurchaseJournal journal = open();
+        journal.append(1, 1, 1, 1.0, 1);
+        journal.append(2, 2, 1, 1.0, 2);
+        journal.close();
+
+        PurchaseJournal reopened = open();
+        reopened.append(3, 3, 1, 1.0, 3);
+        reopened.append(4, 4, 1, 1.0, 4);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), timestamps(reopened));
+        reopened.close();
+        assertEquals(2, segmentFiles().size());
+    }
+
+    @Test
+    void corruptRecordEndsReplayAndIsOverwritten() throws IOException {
+        PurchaseJournal journal = open();
+        journal.append(1, 1, 1, 1.0, 1);
+        journal.append(2, 2, 1, 1.0, 2);
+        journal.close();
+
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 0xDEADBEEF), PurchaseJournal.RECORD_SIZE + 36L);
+        }
+
+        PurchaseJournal reopened = open();
+        assertEquals(List.of(1L), timestamps(reopened));
+
+        reopened.append(3, 3, 1, 1.0, 3);
+        assertEquals(List.of(1L, 3L), timestamps(reopened));
+        reopened.close();
+        assertEquals(1, segmentFiles().size());
+    }
+
+    @Test
+    void replaysSegmentsInNumericOrder() throws IOException {
+        PurchaseJournal journal = open();
+        int total = RECORDS_PER_SEGMENT * 12;
+        for (int i = 0; i < total; i++) {
+            journal.append(i, i, 1, 1.0, i);
+        }
+        journal.close();
+
+        assertEquals(12, segmentFiles().size());
+        List<Long> expected = new ArrayList<>();
+        for (long i = 0; i < total; i++) {
+            expected.add(i);
+        }
+        PurchaseJournal reopened = open();
+        assertEquals(expected, timestamps(reopened));
+        reopened.close();
+    }
+
+    @Test
+    void rejectsNonPositiveQuantity() throws IOException {
+        PurchaseJournal journal = open();
+        assertThrows(IllegalArgumentException.class, () -> journal.append(1, 1, 0, 1.0, 1));
+        assertThrows(IllegalArgumentException.class, () -> journal.append(1, 1, -5, 1.0, 1));
+        assertEquals(0, journal.replay((userId, courseId, quantity, unitPrice, timestamp) -> { }));
+        journal.close();
+    }
+
+    private PurchaseJournal open() throws IOException {
+        return new PurchaseJournal(dir.toString(), RECORDS_PER_SEGMENT * PurchaseJournal.RECORD_SIZE, 1);
+    }
+
+    private static List<Long> timestamps(PurchaseJournal journal) {
+        List<Long> timestamps = new ArrayList<>();
+        long count = journal.replay((userId, courseId, quantity, unitPrice, timestamp) -> timestamps.add(timestamp));
+        assertEquals(timestamps.size(), count);
+        return timestamps;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.CyberEdPlatform.patterns.querybudget;
+
+import org.CyberEdPlatform.patterns.model.Course;
+import org.CyberEdPlatform.patterns.repository.CourseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class QueryBudgetIntegrationTest {
+
+    private static final int CART_SIZE = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private QueryBudgets queryBudgets;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @BeforeEach
+    void seedCourses() {
+        for (int i = 0; courseRepository.count() < CART_SIZE; i++) {
+            String title = "Budget Test Course " + i;
+            if (!courseRepository.existsByTitle(title)) {
+                courseRepository.save(new Course(title, "Query budget fixture", 10.0, 50));
+            }
+        }
+    }
+
+    @AfterEach
+    void restoreBudgets() {
+        queryBudgets.resetBudgets();
+    }
+
+    @Test
+    void cartStaysWithinTwoQueriesRegardlessOfSize() throws Exception {
+        MockHttpSession session = sessionWithCourses(CART_SIZE);
+
+        mockMvc.perform(get("/cart").session(session))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(QueryBudgetFilter.QUERY_COUNT_ATTRIBUTE, lessThanOrEqualTo(2)));
+    }
+
+    @Test
+    void exceededBudgetFailsWithOffendingSql() throws Exception {
+        MockHttpSession session = sessionWithCourses(CART_SIZE);
+        queryBudgets.setBudget("/cart", 1);
+
+        QueryBudgetExceededException e = assertThrows(QueryBudgetExceededException.class,
+                () -> mockMvc.perform(get("/cart").session(session)));
+
+        assertEquals(2, e.getStatements().size());
+        assertTrue(e.getStatements().stream().allMatch(sql -> sql.toLowerCase().contains("from courses")),
+                () -> "Unexpected statements: " + e.getStatements());
+        assertTrue(e.getMessage().contains(e.getStatements().get(0)));
+    }
+
+    private MockHttpSession sessionWithCourses(int count) throws Exception {
+        List<Course> courses = courseRepository.findAll().subList(0, count);
+        String operations = courses.stream()
+                .map(c -> "{\"op\":\"ADD\",\"courseId\":" + c.getId() + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        MockHttpSession session = new MockHttpSession();
+        mockMvc.perform(post("/api/cart/batch")
+                        .session(session)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(operations))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(count));
+        return session;
+    }
+}